@@ -0,0 +1,23 @@
+package com.example.springoauth2profile.config;
+
+/**
+ * Published after commit whenever a second-level cached entity is inserted, updated or deleted.
+ * A cluster transport (Redis pub/sub, JMS, ...) can listen for this with @EventListener, fan it out,
+ * and call {@link SecondLevelCacheInvalidator#evict(CacheInvalidationEvent)} on the other nodes.
+ *
+ * With a read replica configured, eviction alone does not guarantee fresh data: the next read-only
+ * lookup may reload the old row from a replica that has not replayed the write yet and cache it again.
+ * The regions in hibernate-cache.conf therefore expire after write, with a TTL well above
+ * app.datasource.replica.max-lag, so such an entry is dropped once the replica has caught up.
+ *
+ * @param ownerId id of the owning User when an AuthProvider changed (its authProviders collection
+ *                is cached), otherwise null
+ */
+public record CacheInvalidationEvent(String entityName, Object id, Type type, Object ownerId) {
+
+    public enum Type {
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.springoauth2profile.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenDecoderFactory;
+import org.springframework.security.oauth2.client.oidc.authentication.OidcIdTokenValidator;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.converter.ClaimTypeConverter;
+import org.springframework.security.oauth2.jose.jws.JwsAlgorithm;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtDecoderFactory;
+import org.springframework.security.oauth2.jwt.JwtTimestampValidator;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * ID token decoders with a shared, refresh-ahead JWK set cache per registration.
+ * Keys are re-fetched in the background before the cached set expires, so a login never
+ * waits on the provider's JWKS endpoint except on the very first use.
+ *
+ * Picked up by oauth2Login() as the JwtDecoderFactory&lt;ClientRegistration&gt; bean; algorithm
+ * resolution (RS256 by default, HS* keyed with the client secret), validation (timestamps,
+ * iss/aud/nonce) and claim conversion match Spring's OidcIdTokenDecoderFactory.
+ */
+@Component
+public class CachingIdTokenDecoderFactory implements JwtDecoderFactory<ClientRegistration>, DisposableBean {
+
+    private final Map<String, JwtDecoder> decoders = new ConcurrentHashMap<>();
+    private final Map<String, JWKSource<SecurityContext>> jwkSources = new ConcurrentHashMap<>();
+    private final Converter<Map<String, Object>, Map<String, Object>> claimSetConverter =
+            new ClaimTypeConverter(OidcIdTokenDecoderFactory.createDefaultClaimTypeConverters());
+    private Function<ClientRegistration, JwsAlgorithm> jwsAlgorithmResolver = clientRegistration -> SignatureAlgorithm.RS256;
+
+    private final Duration cacheTtl;
+    private final Duration refreshAhead;
+    private final Duration refreshTimeout;
+
+    public CachingIdTokenDecoderFactory(@Value("${app.oauth2.oidc.jwk-cache-ttl:15m}") Duration cacheTtl,
+                                        @Value("${app.oauth2.oidc.jwk-refresh-ahead:1m}") Duration refreshAhead,
+                                        @Value("${app.oauth2.oidc.jwk-refresh-timeout:15s}") Duration refreshTimeout) {
+        this.cacheTtl = cacheTtl;
+        this.refreshAhead = refreshAhead;
+        this.refreshTimeout = refreshTimeout;
+    }
+
+    /**
+     * Sets the resolver for the algorithm an ID token of a registration is signed with.
+     * Must be called before the first login; decoders are built once per registration.
+     */
+    public void setJwsAlgorithmResolver(Function<ClientRegistration, JwsAlgorithm> jwsAlgorithmResolver) {
+        Assert.notNull(jwsAlgorithmResolver, "jwsAlgorithmResolver cannot be null");
+        this.jwsAlgorithmResolver = jwsAlgorithmResolver;
+    }
+
+    @Override
+    public JwtDecoder createDecoder(ClientRegistration clientRegistration) {
+        return decoders.computeIfAbsent(clientRegistration.getRegistrationId(), id -> buildDecoder(clientRegistration));
+    }
+
+    private JwtDecoder buildDecoder(ClientRegistration clientRegistration) {
+        JwsAlgorithm algorithm = jwsAlgorithmResolver.apply(clientRegistration);
+        NimbusJwtDecoder decoder;
+        if (algorithm instanceof SignatureAlgorithm signatureAlgorithm) {
+            decoder = jwkSetDecoder(clientRegistration, signatureAlgorithm);
+        } else if (algorithm instanceof MacAlgorithm macAlgorithm) {
+            decoder = clientSecretDecoder(clientRegistration, macAlgorithm);
+        } else {
+            throw missingSignatureVerifier(clientRegistration, "Check to ensure you have configured a valid JWS Algorithm: '"
+                    + algorithm + "'");
+        }
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                new JwtTimestampValidator(), new OidcIdTokenValidator(clientRegistration)));
+        decoder.setClaimSetConverter(claimSetConverter);
+        return decoder;
+    }
+
+    private NimbusJwtDecoder jwkSetDecoder(ClientRegistration clientRegistration, SignatureAlgorithm algorithm) {
+        String jwkSetUri = clientRegistration.getProviderDetails().getJwkSetUri();
+        if (!StringUtils.hasText(jwkSetUri)) {
+            throw missingSignatureVerifier(clientRegistration, "Check to ensure you have configured the JwkSet URI.");
+        }
+
+        JWKSource<SecurityContext> jwkSource;
+        try {
+            jwkSource = JWKSourceBuilder.create(new URL(jwkSetUri))
+                    .cache(cacheTtl.toMillis(), refreshTimeout.toMillis())
+                    .refreshAheadCache(refreshAhead.toMillis(), true)
+                    .build();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException("Invalid JWK set URI for " + clientRegistration.getRegistrationId(), e);
+        }
+        jwkSources.put(clientRegistration.getRegistrationId(), jwkSource);
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.parse(algorithm.getName()), jwkSource));
+        // Claims are validated by Spring's validators in buildDecoder
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    private NimbusJwtDecoder clientSecretDecoder(ClientRegistration clientRegistration, MacAlgorithm algorithm) {
+        String clientSecret = clientRegistration.getClientSecret();
+        if (!StringUtils.hasText(clientSecret)) {
+            throw missingSignatureVerifier(clientRegistration, "Check to ensure you have configured the client secret.");
+        }
+        String jcaAlgorithm = switch (algorithm) {
+            case HS256 -> "HmacSHA256";
+            case HS384 -> "HmacSHA384";
+            case HS512 -> "HmacSHA512";
+        };
+        SecretKeySpec secretKey = new SecretKeySpec(clientSecret.getBytes(StandardCharsets.UTF_8), jcaAlgorithm);
+        return NimbusJwtDecoder.withSecretKey(secretKey).macAlgorithm(algorithm).build();
+    }
+
+    private static OAuth2AuthenticationException missingSignatureVerifier(ClientRegistration clientRegistration,
+                                                                          String hint) {
+        OAuth2Error error = new OAuth2Error("missing_signature_verifier",
+                "Failed to find a Signature Verifier for Client Registration: '"
+                        + clientRegistration.getRegistrationId() + "'. " + hint, null);
+        return new OAuth2AuthenticationException(error, error.toString());
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (JWKSource<SecurityContext> jwkSource : jwkSources.values()) {
+            if (jwkSource instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.springoauth2profile.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Attribute mapping rules per OAuth2 client registration id, bound from app.oauth2.providers.*.
+ * Attribute names may be dotted paths into nested maps (e.g. "profile.email").
+ * The email fallback is a template such as "{login}@users.noreply.github.com".
+ */
+@Component
+@ConfigurationProperties(prefix = "app.oauth2")
+public class ProviderProperties {
+
+    private Map<String, Mapping> providers = new LinkedHashMap<>();
+
+    public Map<String, Mapping> getProviders() {
+        return providers;
+    }
+
+    public void setProviders(Map<String, Mapping> providers) {
+        this.providers = providers;
+    }
+
+    public static class Mapping {
+
+        /** Value stored in auth_providers.provider; defaults to the upper-cased registration id. */
+        private String key;
+        private String userIdAttribute;
+        private String emailAttribute = "email";
+        private String emailFallback;
+        private String nameAttribute = "name";
+        private String avatarAttribute = "picture";
+        private String principalNameAttribute = "email";
+
+        // Getters and Setters
+        public String getKey() {
+            return key;
+        }
+
+        public void setKey(String key) {
+            this.key = key;
+        }
+
+        public String getUserIdAttribute() {
+            return userIdAttribute;
+        }
+
+        public void setUserIdAttribute(String userIdAttribute) {
+            this.userIdAttribute = userIdAttribute;
+        }
+
+        public String getEmailAttribute() {
+            return emailAttribute;
+        }
+
+        public void setEmailAttribute(String emailAttribute) {
+            this.emailAttribute = emailAttribute;
+        }
+
+        public String getEmailFallback() {
+            return emailFallback;
+        }
+
+        public void setEmailFallback(String emailFallback) {
+            this.emailFallback = emailFallback;
+        }
+
+        public String getNameAttribute() {
+            return nameAttribute;
+        }
+
+        public void setNameAttribute(String nameAttribute) {
+            this.nameAttribute = nameAttribute;
+        }
+
+        public String getAvatarAttribute() {
+            return avatarAttribute;
+        }
+
+        public void setAvatarAttribute(String avatarAttribute) {
+            this.avatarAttribute = avatarAttribute;
+        }
+
+        public String getPrincipalNameAttribute() {
+            return principalNameAttribute;
+        }
+
+        public void setPrincipalNameAttribute(String principalNameAttribute) {
+            this.principalNameAttribute = principalNameAttribute;
+        }
+    }
+}
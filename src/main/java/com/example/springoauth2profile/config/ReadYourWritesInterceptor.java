@@ -0,0 +1,54 @@
+package com.example.springoauth2profile.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+
+/**
+ * Read-your-writes for replica routing. After a session writes (POST /profile, first login),
+ * its reads stay on the primary for app.datasource.replica.max-lag so the PRG redirect
+ * never shows stale data from a lagging replica.
+ */
+@Component
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    static final String LAST_WRITE_ATTRIBUTE = ReadYourWritesInterceptor.class.getName() + ".LAST_WRITE";
+
+    private final Duration maxLag;
+
+    public ReadYourWritesInterceptor(@Value("${app.datasource.replica.max-lag:5s}") Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public void recordWrite(HttpServletRequest request) {
+        request.getSession().setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            Long lastWrite = (Long) session.getAttribute(LAST_WRITE_ATTRIBUTE);
+            if (lastWrite != null && System.currentTimeMillis() - lastWrite < maxLag.toMillis()) {
+                ReplicaRoutingDataSource.pinToPrimary();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRoutingDataSource.clearPin();
+        HttpSession session = request.getSession(false);
+        if (session != null && ex == null
+                && !HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            session.setAttribute(LAST_WRITE_ATTRIBUTE, System.currentTimeMillis());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.springoauth2profile.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically probes the replica. It is considered usable only while the probe succeeds and,
+ * when app.datasource.replica.lag-query is set, the reported replay lag (in seconds) is within
+ * app.datasource.replica.max-lag. Otherwise ReplicaRoutingDataSource sends all reads to the primary.
+ *
+ * Example lag queries:
+ *   PostgreSQL: SELECT COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)
+ *   MySQL 8:    a heartbeat table written by the primary, e.g. SELECT TIMESTAMPDIFF(SECOND, ts, NOW()) FROM heartbeat
+ * Without a lag query only reachability is checked.
+ */
+public class ReplicaLagMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final DataSource replica;
+    private final String lagQuery;
+    private final Duration maxLag;
+    private final Duration probeInterval;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+    private ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, Duration maxLag, Duration probeInterval) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLag = maxLag;
+        this.probeInterval = probeInterval;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    public double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("replica.lag", this, ReplicaLagMonitor::getLagSeconds)
+                .baseUnit("seconds")
+                .description("Replay lag reported by the replica lag query")
+                .register(registry);
+        Gauge.builder("replica.usable", this, monitor -> monitor.isReplicaUsable() ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(registry);
+    }
+
+    /**
+     * Run one probe now and update the routing decision
+     */
+    public void check() {
+        boolean wasUsable = usable;
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (StringUtils.hasText(lagQuery)) {
+                try (ResultSet rs = statement.executeQuery(lagQuery)) {
+                    lagSeconds = rs.next() ? rs.getDouble(1) : Double.NaN;
+                }
+                usable = !Double.isNaN(lagSeconds) && lagSeconds * 1000 <= maxLag.toMillis();
+            } else {
+                usable = connection.isValid((int) Math.max(1, probeInterval.toSeconds()));
+            }
+        } catch (SQLException e) {
+            lagSeconds = Double.NaN;
+            usable = false;
+            if (wasUsable) {
+                logger.warn("Replica probe failed, routing reads to primary: {}", e.getMessage());
+            }
+        }
+        if (wasUsable != usable) {
+            logger.warn("Replica {} (lag {}s, max {}s)", usable ? "back in rotation" : "taken out of rotation",
+                    lagSeconds, maxLag.toSeconds());
+        }
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        check();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::check, probeInterval.toMillis(), probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+}
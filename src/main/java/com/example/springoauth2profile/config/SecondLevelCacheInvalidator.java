@@ -0,0 +1,118 @@
+package com.example.springoauth2profile.config;
+
+import com.example.springoauth2profile.model.AuthProvider;
+import com.example.springoauth2profile.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cross-node invalidation hooks for the local (Caffeine) second-level cache.
+ *
+ * Outbound: after each committed write to a cached entity a {@link CacheInvalidationEvent} is
+ * published as a Spring application event. Inbound: {@link #evict(CacheInvalidationEvent)} drops
+ * the entity, its natural-id mapping and any dependent collection from this node's cache.
+ * With a single node nothing listens and this is a no-op.
+ */
+@Component
+public class SecondLevelCacheInvalidator implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SecondLevelCacheInvalidator.class);
+    private static final String USER_AUTH_PROVIDERS_ROLE = User.class.getName() + ".authProviders";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public SecondLevelCacheInvalidator(EntityManagerFactory entityManagerFactory,
+                                       ApplicationEventPublisher eventPublisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    /**
+     * Apply an invalidation received from another node. Only the affected entries are dropped:
+     * natural ids are immutable, so the natural-id region is only touched when a row is deleted
+     * (Hibernate can only evict that region as a whole).
+     */
+    public void evict(CacheInvalidationEvent event) {
+        CacheImplementor cache = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        logger.debug("Evicting {} {}#{} from second-level cache", event.type(), event.entityName(), event.id());
+        if (event.type() != CacheInvalidationEvent.Type.INSERT) {
+            cache.evictEntityData(event.entityName(), event.id());
+        }
+        if (event.type() == CacheInvalidationEvent.Type.DELETE) {
+            cache.evictNaturalIdData(event.entityName());
+        }
+        if (event.ownerId() != null && event.type() != CacheInvalidationEvent.Type.UPDATE) {
+            cache.evictCollectionData(USER_AUTH_PROVIDERS_ROLE, event.ownerId());
+        }
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        publish(event.getPersister(), event.getId(), event.getEntity(), CacheInvalidationEvent.Type.INSERT);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        publish(event.getPersister(), event.getId(), event.getEntity(), CacheInvalidationEvent.Type.UPDATE);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        publish(event.getPersister(), event.getId(), event.getEntity(), CacheInvalidationEvent.Type.DELETE);
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return persister.canWriteToCache();
+    }
+
+    private void publish(EntityPersister persister, Object id, Object entity, CacheInvalidationEvent.Type type) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        Object ownerId = null;
+        if (entity instanceof AuthProvider authProvider && authProvider.getUser() != null) {
+            ownerId = authProvider.getUser().getId();
+        }
+        eventPublisher.publishEvent(new CacheInvalidationEvent(persister.getEntityName(), id, type, ownerId));
+    }
+}
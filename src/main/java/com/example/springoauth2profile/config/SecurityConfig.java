@@ -1,16 +1,21 @@
 package com.example.springoauth2profile.config;
 
 import com.example.springoauth2profile.service.CustomOAuth2UserService;
+import com.example.springoauth2profile.service.CustomOidcUserService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
-import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
-import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
-import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
-import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
+import org.springframework.security.web.authentication.SavedRequestAwareAuthenticationSuccessHandler;
+import org.springframework.util.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -20,13 +25,58 @@ public class SecurityConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(SecurityConfig.class);
     private final CustomOAuth2UserService customOAuth2UserService;
+    private final CustomOidcUserService customOidcUserService;
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
 
-    public SecurityConfig(CustomOAuth2UserService customOAuth2UserService) {
+    public SecurityConfig(CustomOAuth2UserService customOAuth2UserService,
+                          CustomOidcUserService customOidcUserService,
+                          ReadYourWritesInterceptor readYourWritesInterceptor) {
         this.customOAuth2UserService = customOAuth2UserService;
+        this.customOidcUserService = customOidcUserService;
+        this.readYourWritesInterceptor = readYourWritesInterceptor;
         logger.info("SecurityConfig initialized with CustomOAuth2UserService: {}", customOAuth2UserService.getClass().getSimpleName());
     }
 
+    /**
+     * /internal/** is for other services: stateless HTTP Basic with a single service credential,
+     * no session or CSRF. app.internal.client-secret uses a {bcrypt}/{noop} style prefix; while it is
+     * unset the chain stays in place but denies every request.
+     */
     @Bean
+    @Order(1)
+    public SecurityFilterChain internalApiFilterChain(HttpSecurity http,
+                                                     @Value("${app.internal.client-id}") String clientId,
+                                                     @Value("${app.internal.client-secret:}") String clientSecret) throws Exception {
+        if (!StringUtils.hasText(clientSecret)) {
+            logger.warn("app.internal.client-secret is not set - denying all requests to /internal/**");
+            http
+                    .securityMatcher("/internal/**")
+                    .authorizeHttpRequests(authorize -> authorize.anyRequest().denyAll())
+                    .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .csrf(csrf -> csrf.disable());
+            return http.build();
+        }
+
+        logger.info("Configuring internal API filter chain for client: {}", clientId);
+
+        UserDetails serviceClient = org.springframework.security.core.userdetails.User.withUsername(clientId)
+                .password(clientSecret)
+                .roles("INTERNAL")
+                .build();
+
+        http
+                .securityMatcher("/internal/**")
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().hasRole("INTERNAL"))
+                .httpBasic(Customizer.withDefaults())
+                .userDetailsService(new InMemoryUserDetailsManager(serviceClient))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .csrf(csrf -> csrf.disable());
+
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         logger.info("Configuring SecurityFilterChain with CustomOAuth2UserService");
 
@@ -44,9 +94,9 @@ public class SecurityConfig {
                             .userInfoEndpoint(userInfo -> {
                                 logger.info("Setting custom OAuth2UserService and OidcUserService");
                                 userInfo.userService(customOAuth2UserService);
-                                userInfo.oidcUserService(customOidcUserService());
+                                userInfo.oidcUserService(customOidcUserService);
                             })
-                            .defaultSuccessUrl("/profile", true);
+                            .successHandler(loginSuccessHandler());
                 })
                 .logout(logout -> {
                     logger.info("Configuring logout functionality");
@@ -70,32 +120,17 @@ public class SecurityConfig {
         return http.build();
     }
 
-    @Bean
-    public OidcUserService customOidcUserService() {
-        return new OidcUserService() {
-            @Override
-            public OidcUser loadUser(OidcUserRequest userRequest) throws OAuth2AuthenticationException {
-                logger.info("🔍 OIDC User Service - Processing Google user");
-                
-                // Load the OIDC user first
-                OidcUser oidcUser = super.loadUser(userRequest);
-                
-                // Create a fake OAuth2UserRequest to process through our custom service
-                OAuth2UserRequest oauth2UserRequest = new OAuth2UserRequest(
-                    userRequest.getClientRegistration(),
-                    userRequest.getAccessToken()
-                );
-                
-                // Process the user data through our custom service
-                try {
-                    customOAuth2UserService.processOAuth2User(oauth2UserRequest, oidcUser);
-                    logger.info("✅ Successfully processed OIDC user through CustomOAuth2UserService");
-                } catch (Exception e) {
-                    logger.error("❌ Failed to process OIDC user", e);
-                }
-                
-                return oidcUser;
-            }
+    /**
+     * Same as defaultSuccessUrl("/profile", true), but first marks the session as having
+     * written (login may provision the user) so the redirected GET /profile reads the primary.
+     */
+    AuthenticationSuccessHandler loginSuccessHandler() {
+        SavedRequestAwareAuthenticationSuccessHandler delegate = new SavedRequestAwareAuthenticationSuccessHandler();
+        delegate.setDefaultTargetUrl("/profile");
+        delegate.setAlwaysUseDefaultTargetUrl(true);
+        return (request, response, authentication) -> {
+            readYourWritesInterceptor.recordWrite(request);
+            delegate.onAuthenticationSuccess(request, response, authentication);
         };
     }
 }
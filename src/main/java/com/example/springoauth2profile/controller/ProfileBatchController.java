@@ -0,0 +1,72 @@
+package com.example.springoauth2profile.controller;
+
+import com.example.springoauth2profile.dto.ProfileBatchRequest;
+import com.example.springoauth2profile.dto.ProfileSummary;
+import com.example.springoauth2profile.service.ProfileLookupService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Internal batch profile lookup for other services (author names, avatars).
+ * Secured separately from the browser flow, see SecurityConfig.internalApiFilterChain.
+ */
+@RestController
+public class ProfileBatchController {
+
+    private final ProfileLookupService profileLookupService;
+    private final ObjectWriter summaryWriter;
+    private final int maxBatchSize;
+
+    public ProfileBatchController(ProfileLookupService profileLookupService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.profiles.batch.max-size:1000}") int maxBatchSize) {
+        this.profileLookupService = profileLookupService;
+        this.summaryWriter = objectMapper.writerFor(ProfileSummary.class);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * POST /internal/profiles/batch - JSON array of summaries for the requested ids/emails
+     */
+    @PostMapping(value = "/internal/profiles/batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<ProfileSummary> batch(@RequestBody ProfileBatchRequest request) {
+        return lookup(request);
+    }
+
+    /**
+     * Same lookup, streamed as newline-delimited JSON (Accept: application/x-ndjson)
+     */
+    @PostMapping(value = "/internal/profiles/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> batchNdjson(@RequestBody ProfileBatchRequest request) {
+        List<ProfileSummary> summaries = lookup(request);
+        StreamingResponseBody body = out -> {
+            for (ProfileSummary summary : summaries) {
+                out.write(summaryWriter.writeValueAsBytes(summary));
+                out.write('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private List<ProfileSummary> lookup(ProfileBatchRequest request) {
+        int size = (request.getIds() != null ? request.getIds().size() : 0)
+                + (request.getEmails() != null ? request.getEmails().size() : 0);
+        if (size > maxBatchSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Batch size " + size + " exceeds the maximum of " + maxBatchSize);
+        }
+        return profileLookupService.findSummaries(request.getIds(), request.getEmails());
+    }
+
+}
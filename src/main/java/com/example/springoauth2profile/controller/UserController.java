@@ -3,7 +3,9 @@ package com.example.springoauth2profile.controller;
 import com.example.springoauth2profile.dto.ProfileUpdateRequest;
 import com.example.springoauth2profile.model.User;
 import com.example.springoauth2profile.repository.UserRepository;
+import com.example.springoauth2profile.service.ProviderRegistry;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -15,15 +17,16 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 
 @Controller
 public class UserController {
 
     private final UserRepository userRepository;
+    private final ProviderRegistry providerRegistry;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, ProviderRegistry providerRegistry) {
         this.userRepository = userRepository;
+        this.providerRegistry = providerRegistry;
     }
 
     /**
@@ -31,7 +34,8 @@ public class UserController {
      * Returns HTML page with profile form
      */
     @GetMapping({"/profile", "/profile/"})
-    public String profile(Model model, @AuthenticationPrincipal OAuth2User principal) {
+    public String profile(Model model, @AuthenticationPrincipal OAuth2User principal,
+                          OAuth2AuthenticationToken authentication) {
         System.out.println("============================================");
         System.out.println("🔍 GET /profile endpoint called!");
         System.out.println("🔍 Principal: " + (principal != null ? principal.getName() : "NULL"));
@@ -41,7 +45,7 @@ public class UserController {
             throw new RuntimeException("Not authenticated");
         }
         
-        String email = getEmailFromPrincipal(principal);
+        String email = getEmailFromPrincipal(authentication, principal);
         System.out.println("🔍 Email extracted: " + email);
         
         User user = userRepository.findByEmail(email)
@@ -77,6 +81,7 @@ public class UserController {
      */
     @PostMapping("/profile")
     public String updateProfile(@AuthenticationPrincipal OAuth2User principal,
+                               OAuth2AuthenticationToken authentication,
                                @ModelAttribute ProfileUpdateRequest request,
                                RedirectAttributes redirectAttributes) {
         System.out.println("============================================");
@@ -84,7 +89,7 @@ public class UserController {
         System.out.println("📝 Request - Display Name: " + request.getDisplayName());
         System.out.println("📝 Request - Bio: " + request.getBio());
         
-        String email = getEmailFromPrincipal(principal);
+        String email = getEmailFromPrincipal(authentication, principal);
         System.out.println("📝 User email: " + email);
         
         User user = userRepository.findByEmail(email)
@@ -118,7 +123,8 @@ public class UserController {
 
     @GetMapping("/test-oauth")
     @ResponseBody
-    public String testOAuth(@AuthenticationPrincipal OAuth2User principal) {
+    public String testOAuth(@AuthenticationPrincipal OAuth2User principal,
+                            OAuth2AuthenticationToken authentication) {
         if (principal == null) {
             return "ERROR: Principal is NULL!";
         }
@@ -132,7 +138,7 @@ public class UserController {
             sb.append("  ").append(key).append(": ").append(value).append("\n")
         );
         sb.append("\nEmail extraction test:\n");
-        String email = getEmailFromPrincipal(principal);
+        String email = getEmailFromPrincipal(authentication, principal);
         sb.append("  Extracted email: ").append(email).append("\n");
         
         return sb.toString();
@@ -140,22 +146,11 @@ public class UserController {
 
     /**
      * Helper method to extract email from OAuth2User principal
-     * Uses the same logic as CustomOAuth2UserService for consistency
+     * Uses the same ProviderRegistry mapping as CustomOAuth2UserService for consistency
      */
-    private String getEmailFromPrincipal(OAuth2User principal) {
-        String email = principal.getAttribute("email");
-        Map<String, Object> attributes = principal.getAttributes();
-        
-        System.out.println("🔍 getEmailFromPrincipal - Initial email: " + email);
-        System.out.println("🔍 getEmailFromPrincipal - Has 'id': " + attributes.containsKey("id"));
-        System.out.println("🔍 getEmailFromPrincipal - Has 'login': " + attributes.containsKey("login"));
-
-        // If email is null and we have GitHub attributes, generate fallback email
-        if ((email == null || email.isEmpty()) && attributes.containsKey("id") && attributes.containsKey("login")) {
-            String login = (String) attributes.get("login");
-            email = login + "@users.noreply.github.com";
-            System.out.println("🔍 getEmailFromPrincipal - Generated fallback email: " + email);
-        }
+    private String getEmailFromPrincipal(OAuth2AuthenticationToken authentication, OAuth2User principal) {
+        String registrationId = authentication.getAuthorizedClientRegistrationId();
+        String email = providerRegistry.get(registrationId).email(principal.getAttributes());
 
         System.out.println("🔍 getEmailFromPrincipal - Final email: " + email);
         return email;
@@ -0,0 +1,30 @@
+package com.example.springoauth2profile.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProfileBatchRequest {
+
+    private List<Long> ids = new ArrayList<>();
+    private List<String> emails = new ArrayList<>();
+
+    // Default constructor
+    public ProfileBatchRequest() {}
+
+    // Getters and setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<String> getEmails() {
+        return emails;
+    }
+
+    public void setEmails(List<String> emails) {
+        this.emails = emails;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.springoauth2profile.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Compact public profile for other services (no bio CLOB).
+ * email is only set when the caller looked the profile up by email.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProfileSummary {
+
+    private final Long id;
+    private final String email;
+    private final String displayName;
+    private final String avatarUrl;
+
+    public ProfileSummary(Long id, String displayName, String avatarUrl) {
+        this(id, null, displayName, avatarUrl);
+    }
+
+    public ProfileSummary(Long id, String email, String displayName, String avatarUrl) {
+        this.id = id;
+        this.email = email;
+        this.displayName = displayName;
+        this.avatarUrl = avatarUrl;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getAvatarUrl() {
+        return avatarUrl;
+    }
+}
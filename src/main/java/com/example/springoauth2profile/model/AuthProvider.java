@@ -1,9 +1,16 @@
 package com.example.springoauth2profile.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Entity
 @Table(name = "auth_providers", uniqueConstraints = @UniqueConstraint(columnNames = {"provider", "provider_user_id"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache(region = "auth-provider-natural-id")
 public class AuthProvider {
 
     @Id
@@ -14,10 +21,12 @@ public class AuthProvider {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
-    private Provider provider;
+    // Provider key from the ProviderRegistry (e.g. GOOGLE, GITHUB); free-form so new IdPs need no migration
+    @NaturalId
+    @Column(nullable = false, length = 64)
+    private String provider;
 
+    @NaturalId
     @Column(name = "provider_user_id", nullable = false)
     private String providerUserId;
 
@@ -38,11 +47,11 @@ public class AuthProvider {
         this.user = user;
     }
 
-    public Provider getProvider() {
+    public String getProvider() {
         return provider;
     }
 
-    public void setProvider(Provider provider) {
+    public void setProvider(String provider) {
         this.provider = provider;
     }
 
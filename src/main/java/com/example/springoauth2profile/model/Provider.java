@@ -1,7 +0,0 @@
-package com.example.springoauth2profile.model;
-
-public enum Provider {
-    LOCAL, 
-    GOOGLE,
-    GITHUB
-}
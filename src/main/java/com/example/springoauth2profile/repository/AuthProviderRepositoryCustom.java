@@ -0,0 +1,12 @@
+package com.example.springoauth2profile.repository;
+
+import com.example.springoauth2profile.model.AuthProvider;
+import java.util.Optional;
+
+public interface AuthProviderRepositoryCustom {
+
+    /**
+     * Resolved through Hibernate's natural-id cache, so repeat logins skip the database
+     */
+    Optional<AuthProvider> findByProviderAndProviderUserId(String provider, String providerUserId);
+}
@@ -0,0 +1,25 @@
+package com.example.springoauth2profile.repository;
+
+import com.example.springoauth2profile.model.AuthProvider;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+class AuthProviderRepositoryImpl implements AuthProviderRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AuthProvider> findByProviderAndProviderUserId(String provider, String providerUserId) {
+        return entityManager.unwrap(Session.class)
+                .byNaturalId(AuthProvider.class)
+                .using("provider", provider)
+                .using("providerUserId", providerUserId)
+                .loadOptional();
+    }
+}
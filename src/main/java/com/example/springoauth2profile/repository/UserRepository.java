@@ -1,9 +1,26 @@
 package com.example.springoauth2profile.repository;
 
+import com.example.springoauth2profile.dto.ProfileSummary;
 import com.example.springoauth2profile.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.util.Optional;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByEmail(String email);
+import java.util.Collection;
+import java.util.List;
+
+// findByEmail is a natural-id lookup, see UserRepositoryCustom.
+// @Query methods don't inherit SimpleJpaRepository's readOnly, so they declare it for replica routing.
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.springoauth2profile.dto.ProfileSummary(u.id, u.displayName, u.avatarUrl) "
+            + "from User u where u.id in :ids")
+    List<ProfileSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.springoauth2profile.dto.ProfileSummary(u.id, u.email, u.displayName, u.avatarUrl) "
+            + "from User u where u.email in :emails")
+    List<ProfileSummary> findSummariesByEmailIn(@Param("emails") Collection<String> emails);
 }
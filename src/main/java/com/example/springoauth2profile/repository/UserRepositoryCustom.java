@@ -0,0 +1,12 @@
+package com.example.springoauth2profile.repository;
+
+import com.example.springoauth2profile.model.User;
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+
+    /**
+     * Resolved through Hibernate's natural-id cache, so repeat lookups skip the database
+     */
+    Optional<User> findByEmail(String email);
+}
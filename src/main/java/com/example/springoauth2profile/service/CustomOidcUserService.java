@@ -0,0 +1,77 @@
+package com.example.springoauth2profile.service;
+
+import com.example.springoauth2profile.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.StandardClaimNames;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * OIDC logins (Google). When app.oauth2.oidc.trust-id-token-claims is on and the validated ID token
+ * already carries sub/email/name/picture, identity is taken from the token alone and the user-info
+ * endpoint is not called. Provisioning goes straight through CustomOAuth2UserService.provisionUser.
+ */
+@Service
+public class CustomOidcUserService extends OidcUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomOidcUserService.class);
+
+    private static final List<String> REQUIRED_ID_TOKEN_CLAIMS = List.of(
+            StandardClaimNames.SUB, StandardClaimNames.EMAIL, StandardClaimNames.NAME, StandardClaimNames.PICTURE);
+
+    private final CustomOAuth2UserService customOAuth2UserService;
+    private final ProviderRegistry providerRegistry;
+    private final boolean trustIdTokenClaims;
+
+    public CustomOidcUserService(CustomOAuth2UserService customOAuth2UserService,
+                                 ProviderRegistry providerRegistry,
+                                 @Value("${app.oauth2.oidc.trust-id-token-claims:true}") boolean trustIdTokenClaims) {
+        this.customOAuth2UserService = customOAuth2UserService;
+        this.providerRegistry = providerRegistry;
+        this.trustIdTokenClaims = trustIdTokenClaims;
+        setRetrieveUserInfo(this::shouldRetrieveUserInfo);
+    }
+
+    @Override
+    public OidcUser loadUser(OidcUserRequest userRequest) throws OAuth2AuthenticationException {
+        String registrationId = userRequest.getClientRegistration().getRegistrationId();
+        logger.info("🔍 OIDC User Service - Processing {} user", registrationId);
+
+        OidcUser oidcUser = super.loadUser(userRequest);
+        ProviderDefinition provider = providerRegistry.get(registrationId);
+
+        User user = customOAuth2UserService.provisionUser(provider, oidcUser.getAttributes());
+        logger.info("✅ Successfully processed OIDC user: {}", user.getEmail());
+
+        return oidcUser;
+    }
+
+    private boolean shouldRetrieveUserInfo(OidcUserRequest userRequest) {
+        if (!StringUtils.hasText(userRequest.getClientRegistration().getProviderDetails().getUserInfoEndpoint().getUri())) {
+            return false;
+        }
+        if (trustIdTokenClaims && hasRequiredClaims(userRequest.getIdToken())) {
+            logger.debug("ID token carries all profile claims - skipping user-info request");
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean hasRequiredClaims(OidcIdToken idToken) {
+        for (String claim : REQUIRED_ID_TOKEN_CLAIMS) {
+            if (!StringUtils.hasText(idToken.getClaimAsString(claim))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.springoauth2profile.service;
+
+import com.example.springoauth2profile.dto.ProfileSummary;
+import com.example.springoauth2profile.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Batched profile summaries for internal callers. Keys are resolved with one IN query per chunk,
+ * and a key already being fetched by a concurrent request is awaited rather than queried again.
+ */
+@Service
+public class ProfileLookupService {
+
+    private final UserRepository userRepository;
+    private final int chunkSize;
+
+    private final Map<Long, CompletableFuture<ProfileSummary>> inFlightById = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ProfileSummary>> inFlightByEmail = new ConcurrentHashMap<>();
+
+    public ProfileLookupService(UserRepository userRepository,
+                                @Value("${app.profiles.batch.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Summaries for the given ids and emails, deduplicated, in request order. Unknown keys are skipped.
+     * Each chunk query runs in its own read-only transaction (replica-routed), so a request waiting
+     * on another's in-flight keys doesn't hold a connection.
+     */
+    public List<ProfileSummary> findSummaries(Collection<Long> ids, Collection<String> emails) {
+        Map<Long, ProfileSummary> result = new LinkedHashMap<>();
+        for (ProfileSummary summary : load(ids, inFlightById, userRepository::findSummariesByIdIn, ProfileSummary::getId)) {
+            result.putIfAbsent(summary.getId(), summary);
+        }
+        // Email lookups replace id lookups of the same user so the email the caller asked by is returned
+        for (ProfileSummary summary : load(emails, inFlightByEmail, userRepository::findSummariesByEmailIn, ProfileSummary::getEmail)) {
+            result.put(summary.getId(), summary);
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    private <K> List<ProfileSummary> load(Collection<K> keys,
+                                          Map<K, CompletableFuture<ProfileSummary>> inFlight,
+                                          Function<List<K>, List<ProfileSummary>> query,
+                                          Function<ProfileSummary, K> keyOf) {
+        if (keys == null || keys.isEmpty()) {
+            return List.of();
+        }
+
+        // Claim each key, or join whoever is already fetching it
+        Map<K, CompletableFuture<ProfileSummary>> pending = new LinkedHashMap<>();
+        Map<K, CompletableFuture<ProfileSummary>> owned = new LinkedHashMap<>();
+        for (K key : new LinkedHashSet<>(keys)) {
+            if (key == null) {
+                continue;
+            }
+            CompletableFuture<ProfileSummary> future = new CompletableFuture<>();
+            CompletableFuture<ProfileSummary> existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                owned.put(key, future);
+                pending.put(key, future);
+            } else {
+                pending.put(key, existing);
+            }
+        }
+
+        try {
+            List<K> toFetch = new ArrayList<>(owned.keySet());
+            for (int from = 0; from < toFetch.size(); from += chunkSize) {
+                List<K> chunk = toFetch.subList(from, Math.min(from + chunkSize, toFetch.size()));
+                for (ProfileSummary summary : query.apply(chunk)) {
+                    CompletableFuture<ProfileSummary> future = owned.get(keyOf.apply(summary));
+                    if (future != null) {
+                        future.complete(summary);
+                    }
+                }
+            }
+            owned.values().forEach(future -> future.complete(null));
+        } catch (RuntimeException e) {
+            owned.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            owned.forEach(inFlight::remove);
+        }
+
+        try {
+            return pending.values().stream()
+                    .map(CompletableFuture::join)
+                    .filter(Objects::nonNull)
+                    .toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+}
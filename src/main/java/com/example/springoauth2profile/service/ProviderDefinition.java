@@ -0,0 +1,143 @@
+package com.example.springoauth2profile.service;
+
+import com.example.springoauth2profile.config.ProviderProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One configured identity provider with its attribute mapping rules compiled into accessors,
+ * so per-login extraction is plain map lookups with no string parsing.
+ */
+public class ProviderDefinition {
+
+    private final String registrationId;
+    private final String key;
+    private final String principalNameAttribute;
+    private final Function<Map<String, Object>, String> userId;
+    private final Function<Map<String, Object>, String> email;
+    private final Function<Map<String, Object>, String> emailFallback;
+    private final Function<Map<String, Object>, String> displayName;
+    private final Function<Map<String, Object>, String> avatarUrl;
+
+    ProviderDefinition(String registrationId, ProviderProperties.Mapping mapping) {
+        if (mapping.getUserIdAttribute() == null || mapping.getUserIdAttribute().isBlank()) {
+            throw new IllegalStateException("app.oauth2.providers." + registrationId + ".user-id-attribute is required");
+        }
+        this.registrationId = registrationId;
+        this.key = mapping.getKey() != null ? mapping.getKey() : registrationId.toUpperCase(Locale.ROOT);
+        this.principalNameAttribute = mapping.getPrincipalNameAttribute();
+        this.userId = attribute(mapping.getUserIdAttribute());
+        this.email = attribute(mapping.getEmailAttribute());
+        this.emailFallback = template(mapping.getEmailFallback());
+        this.displayName = attribute(mapping.getNameAttribute());
+        this.avatarUrl = attribute(mapping.getAvatarAttribute());
+    }
+
+    public String getRegistrationId() {
+        return registrationId;
+    }
+
+    /**
+     * Value persisted in auth_providers.provider
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public String getPrincipalNameAttribute() {
+        return principalNameAttribute;
+    }
+
+    public String userId(Map<String, Object> attributes) {
+        return userId.apply(attributes);
+    }
+
+    /**
+     * Email attribute, or the configured fallback template when the provider doesn't share one
+     */
+    public String email(Map<String, Object> attributes) {
+        String value = email.apply(attributes);
+        if (value == null || value.isEmpty()) {
+            value = emailFallback.apply(attributes);
+        }
+        return value;
+    }
+
+    public String displayName(Map<String, Object> attributes) {
+        return displayName.apply(attributes);
+    }
+
+    public String avatarUrl(Map<String, Object> attributes) {
+        return avatarUrl.apply(attributes);
+    }
+
+    private static Function<Map<String, Object>, String> attribute(String path) {
+        if (path == null || path.isBlank()) {
+            return attributes -> null;
+        }
+        String[] segments = path.split("\\.");
+        if (segments.length == 1) {
+            String name = segments[0];
+            return attributes -> stringValue(attributes.get(name));
+        }
+        return attributes -> {
+            Object current = attributes;
+            for (String segment : segments) {
+                if (!(current instanceof Map<?, ?> map)) {
+                    return null;
+                }
+                current = map.get(segment);
+            }
+            return stringValue(current);
+        };
+    }
+
+    /**
+     * Compiles "{login}@users.noreply.github.com" into literal and attribute parts.
+     * Yields null if any referenced attribute is missing.
+     */
+    private static Function<Map<String, Object>, String> template(String template) {
+        if (template == null || template.isBlank()) {
+            return attributes -> null;
+        }
+        List<Function<Map<String, Object>, String>> parts = new ArrayList<>();
+        int pos = 0;
+        while (pos < template.length()) {
+            int open = template.indexOf('{', pos);
+            if (open < 0) {
+                String literal = template.substring(pos);
+                parts.add(attributes -> literal);
+                break;
+            }
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalStateException("Unclosed '{' in email fallback template: " + template);
+            }
+            if (open > pos) {
+                String literal = template.substring(pos, open);
+                parts.add(attributes -> literal);
+            }
+            parts.add(attribute(template.substring(open + 1, close)));
+            pos = close + 1;
+        }
+        return attributes -> {
+            StringBuilder sb = new StringBuilder();
+            for (Function<Map<String, Object>, String> part : parts) {
+                String value = part.apply(attributes);
+                if (value == null) {
+                    return null;
+                }
+                sb.append(value);
+            }
+            return sb.toString();
+        };
+    }
+
+    private static String stringValue(Object value) {
+        return value != null ? String.valueOf(value) : null;
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.springoauth2profile.service;
+
+import com.example.springoauth2profile.config.ProviderProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Identity providers loaded from app.oauth2.providers.* at startup, keyed by client registration id.
+ * Onboarding a new IdP is a configuration change: add the spring.security.oauth2.client registration
+ * plus its attribute mapping here.
+ */
+@Component
+public class ProviderRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProviderRegistry.class);
+
+    private final Map<String, ProviderDefinition> byRegistrationId = new HashMap<>();
+
+    public ProviderRegistry(ProviderProperties properties,
+                            ObjectProvider<ClientRegistrationRepository> clientRegistrations) {
+        properties.getProviders().forEach((registrationId, mapping) ->
+                byRegistrationId.put(registrationId, new ProviderDefinition(registrationId, mapping)));
+        logger.info("Registered OAuth2 providers: {}", byRegistrationId.keySet());
+
+        // Fail fast rather than at the first login through an unmapped registration
+        if (clientRegistrations.getIfAvailable() instanceof Iterable<?> registrations) {
+            for (Object registration : registrations) {
+                String registrationId = ((ClientRegistration) registration).getRegistrationId();
+                if (!byRegistrationId.containsKey(registrationId)) {
+                    throw new IllegalStateException("OAuth2 client registration '" + registrationId
+                            + "' has no attribute mapping; configure app.oauth2.providers." + registrationId + ".*");
+                }
+            }
+        }
+    }
+
+    /**
+     * @throws OAuth2AuthenticationException if no mapping is configured for the registration id
+     */
+    public ProviderDefinition get(String registrationId) {
+        ProviderDefinition definition = byRegistrationId.get(registrationId);
+        if (definition == null) {
+            throw new OAuth2AuthenticationException(new OAuth2Error("unsupported_provider"),
+                    "Unsupported provider: " + registrationId);
+        }
+        return definition;
+    }
+}
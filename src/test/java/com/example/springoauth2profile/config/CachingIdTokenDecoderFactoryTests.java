@@ -0,0 +1,88 @@
+package com.example.springoauth2profile.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingIdTokenDecoderFactoryTests {
+
+    private static final String CLIENT_SECRET = "0123456789abcdef0123456789abcdef";
+
+    private final CachingIdTokenDecoderFactory factory = new CachingIdTokenDecoderFactory(
+            Duration.ofMinutes(15), Duration.ofMinutes(1), Duration.ofSeconds(15));
+
+    @Test
+    void createsOneDecoderPerRegistration() {
+        JwtDecoder google = factory.createDecoder(registration("google", "https://idp.example.com/jwks"));
+
+        assertThat(factory.createDecoder(registration("google", "https://idp.example.com/jwks"))).isSameAs(google);
+        assertThat(factory.createDecoder(registration("corp", "https://corp.example.com/jwks"))).isNotSameAs(google);
+    }
+
+    @Test
+    void macAlgorithmVerifiesWithClientSecret() throws Exception {
+        factory.setJwsAlgorithmResolver(clientRegistration -> MacAlgorithm.HS256);
+        JwtDecoder decoder = factory.createDecoder(registration("corp", null));
+
+        Jwt jwt = decoder.decode(signedIdToken());
+
+        assertThat(jwt.getSubject()).isEqualTo("123");
+    }
+
+    @Test
+    void rejectsRegistrationWithoutVerifier() {
+        assertThatThrownBy(() -> factory.createDecoder(registration("google", null)))
+                .isInstanceOf(OAuth2AuthenticationException.class)
+                .hasMessageContaining("JwkSet URI");
+
+        factory.setJwsAlgorithmResolver(clientRegistration -> null);
+        assertThatThrownBy(() -> factory.createDecoder(registration("corp", "https://corp.example.com/jwks")))
+                .isInstanceOf(OAuth2AuthenticationException.class)
+                .hasMessageContaining("JWS Algorithm");
+    }
+
+    private static String signedIdToken() throws Exception {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer("https://idp.example.com")
+                .subject("123")
+                .audience("client")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(60)))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.HS256), claims);
+        jwt.sign(new MACSigner(CLIENT_SECRET.getBytes(StandardCharsets.UTF_8)));
+        return jwt.serialize();
+    }
+
+    private static ClientRegistration registration(String registrationId, String jwkSetUri) {
+        return ClientRegistration.withRegistrationId(registrationId)
+                .clientId("client")
+                .clientSecret(CLIENT_SECRET)
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .scope("openid")
+                .authorizationUri("https://idp.example.com/authorize")
+                .tokenUri("https://idp.example.com/token")
+                .issuerUri("https://idp.example.com")
+                .jwkSetUri(jwkSetUri)
+                .build();
+    }
+}
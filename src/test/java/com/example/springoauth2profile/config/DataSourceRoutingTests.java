@@ -0,0 +1,183 @@
+package com.example.springoauth2profile.config;
+
+import com.example.springoauth2profile.SpringOauth2ProfileApplication;
+import com.example.springoauth2profile.dto.ProfileSummary;
+import com.example.springoauth2profile.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primary/replica routing against two independent H2 instances. Hibernate only creates the schema
+ * on the primary, so it is copied to the replica here; each side then gets a differently named
+ * copy of the same user so the results show which database served a read.
+ */
+@SpringBootTest(classes = SpringOauth2ProfileApplication.class, properties = {
+        "app.internal.client-secret={noop}test-secret",
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.datasource.replica.url=jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+        "app.datasource.replica.lag-query=SELECT lag_seconds FROM replica_status",
+        "app.datasource.replica.max-lag=5s",
+        "app.datasource.replica.probe-interval=1h",
+        // Reads must reach a database for the routing to be observable
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "app.oauth2.providers.test.user-id-attribute=sub"
+})
+@AutoConfigureMockMvc
+class DataSourceRoutingTests {
+
+    private static final long USER_ID = 1000L;
+    private static final String EMAIL = "routing@example.com";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private SecurityConfig securityConfig;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private DataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+
+        Integer replicaTables = replica.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'USERS'", Integer.class);
+        if (replicaTables == 0) {
+            for (String statement : primary.queryForList("SCRIPT NODATA", String.class)) {
+                replica.execute(statement);
+            }
+        }
+        for (JdbcTemplate db : List.of(primary, replica)) {
+            db.update("DELETE FROM auth_providers");
+            db.update("DELETE FROM users");
+        }
+        insertUser(primary, "primary");
+        insertUser(replica, "replica");
+
+        replica.execute("CREATE TABLE IF NOT EXISTS replica_status (lag_seconds DOUBLE)");
+        replica.update("DELETE FROM replica_status");
+        replica.update("INSERT INTO replica_status VALUES (0)");
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    void readOnlyRepositoryCallsHitReplica() {
+        assertThat(displayNameFromRepository()).isEqualTo("replica");
+        assertThat(userRepository.findAll()).extracting("displayName").containsExactly("replica");
+
+        String inWriteTransaction = transactionTemplate.execute(status -> displayNameFromRepository());
+        assertThat(inWriteTransaction).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingOrUnreachableReplicaFallsBackToPrimary() {
+        replica.update("UPDATE replica_status SET lag_seconds = 60");
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isReplicaUsable()).isFalse();
+        assertThat(displayNameFromRepository()).isEqualTo("primary");
+
+        replica.update("UPDATE replica_status SET lag_seconds = 1");
+        replicaLagMonitor.check();
+        assertThat(displayNameFromRepository()).isEqualTo("replica");
+
+        replica.execute("DROP TABLE replica_status");
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isReplicaUsable()).isFalse();
+        assertThat(displayNameFromRepository()).isEqualTo("primary");
+    }
+
+    @Test
+    void profileReadAfterUpdateIsPinnedToPrimary() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+
+        mockMvc.perform(get("/profile").session(session).with(login()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("user", hasProperty("displayName", is("replica"))));
+
+        mockMvc.perform(post("/profile").session(session).with(login()).with(csrf())
+                        .param("displayName", "Updated")
+                        .param("bio", "New bio"))
+                .andExpect(redirectedUrl("/profile"));
+
+        // The replica never sees the write, so only a pinned read can show it
+        mockMvc.perform(get("/profile").session(session).with(login()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("user", hasProperty("displayName", is("Updated"))));
+
+        mockMvc.perform(get("/profile").session(new MockHttpSession()).with(login()))
+                .andExpect(model().attribute("user", hasProperty("displayName", is("replica"))));
+    }
+
+    @Test
+    void loginSuccessMarksSessionAndRedirectsToProfile() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        securityConfig.loginSuccessHandler()
+                .onAuthenticationSuccess(request, response, new TestingAuthenticationToken("user", null));
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/profile");
+        assertThat(request.getSession().getAttribute(ReadYourWritesInterceptor.LAST_WRITE_ATTRIBUTE)).isNotNull();
+    }
+
+    private String displayNameFromRepository() {
+        return userRepository.findSummariesByIdIn(List.of(USER_ID)).stream()
+                .map(ProfileSummary::getDisplayName)
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static RequestPostProcessor login() {
+        return oauth2Login().attributes(attributes -> attributes.put("email", EMAIL));
+    }
+
+    private static void insertUser(JdbcTemplate db, String displayName) {
+        db.update("INSERT INTO users (id, email, display_name, created_at, updated_at) "
+                + "VALUES (?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", USER_ID, EMAIL, displayName);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.springoauth2profile.controller;
+
+import com.example.springoauth2profile.SpringOauth2ProfileApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Without app.internal.client-secret the application still starts, but /internal/** is closed.
+ */
+@SpringBootTest(classes = SpringOauth2ProfileApplication.class)
+@AutoConfigureMockMvc
+class InternalApiWithoutSecretTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void internalApiDeniesAllRequests() throws Exception {
+        mockMvc.perform(post("/internal/profiles/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1]}"))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(post("/internal/profiles/batch")
+                        .with(httpBasic("internal-service", ""))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1]}"))
+                .andExpect(status().isForbidden());
+    }
+}
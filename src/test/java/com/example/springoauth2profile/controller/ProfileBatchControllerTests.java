@@ -0,0 +1,140 @@
+package com.example.springoauth2profile.controller;
+
+import com.example.springoauth2profile.SpringOauth2ProfileApplication;
+import com.example.springoauth2profile.model.User;
+import com.example.springoauth2profile.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = SpringOauth2ProfileApplication.class, properties = {
+        "app.internal.client-secret={noop}test-secret",
+        "app.profiles.batch.max-size=5",
+        "app.profiles.batch.chunk-size=2"
+})
+@AutoConfigureMockMvc
+class ProfileBatchControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User alice;
+    private User bob;
+    private User carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = save("Alice");
+        bob = save("Bob");
+        carol = save("Carol");
+    }
+
+    @Test
+    void returnsSummariesByIdWithoutEmailOrBio() throws Exception {
+        String body = "{\"ids\":[" + alice.getId() + "," + bob.getId() + "," + carol.getId() + ",-1]}";
+
+        mockMvc.perform(post("/internal/profiles/batch")
+                        .with(httpBasic("internal-service", "test-secret"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].id").value(alice.getId()))
+                .andExpect(jsonPath("$[0].displayName").value("Alice"))
+                .andExpect(jsonPath("$[0].avatarUrl").value("https://example.com/Alice.png"))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[0].bio").doesNotExist());
+    }
+
+    @Test
+    void includesEmailOnlyForEmailLookups() throws Exception {
+        String body = "{\"ids\":[" + alice.getId() + "],\"emails\":[\"" + bob.getEmail() + "\"]}";
+
+        mockMvc.perform(post("/internal/profiles/batch")
+                        .with(httpBasic("internal-service", "test-secret"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].email").doesNotExist())
+                .andExpect(jsonPath("$[1].email").value(bob.getEmail()));
+    }
+
+    @Test
+    void streamsNdjson() throws Exception {
+        String body = "{\"ids\":[" + alice.getId() + "," + bob.getId() + "]}";
+
+        MvcResult result = mockMvc.perform(post("/internal/profiles/batch")
+                        .with(httpBasic("internal-service", "test-secret"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String ndjson = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = ndjson.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"displayName\":\"Alice\"");
+        assertThat(lines[1]).contains("\"displayName\":\"Bob\"");
+    }
+
+    @Test
+    void rejectsBatchesOverMaxSize() throws Exception {
+        mockMvc.perform(post("/internal/profiles/batch")
+                        .with(httpBasic("internal-service", "test-secret"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2,3,4,5,6]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void requiresServiceCredentials() throws Exception {
+        mockMvc.perform(post("/internal/profiles/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1]}"))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(post("/internal/profiles/batch")
+                        .with(httpBasic("internal-service", "wrong"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1]}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private User save(String name) {
+        User user = new User();
+        user.setEmail(name.toLowerCase() + "-" + UUID.randomUUID() + "@example.com");
+        user.setDisplayName(name);
+        user.setAvatarUrl("https://example.com/" + name + ".png");
+        user.setBio("Long bio for " + name);
+        return userRepository.save(user);
+    }
+}
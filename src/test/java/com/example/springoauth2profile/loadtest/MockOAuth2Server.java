@@ -0,0 +1,188 @@
+package com.example.springoauth2profile.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal in-process OAuth2/OIDC provider for load tests: authorize (auto-consent), token,
+ * user-info and JWKS endpoints. Each authorize request logs in the next of {@code distinctUsers}
+ * synthetic users, round-robin, so repeated runs exercise both first-login provisioning and
+ * existing-user lookups.
+ */
+class MockOAuth2Server {
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final RSAKey signingKey;
+    private final int distinctUsers;
+    private final AtomicLong nextUser = new AtomicLong();
+
+    private final Map<String, Grant> grantsByCode = new ConcurrentHashMap<>();
+    private final Map<String, Integer> usersByAccessToken = new ConcurrentHashMap<>();
+
+    final AtomicLong authorizeRequests = new AtomicLong();
+    final AtomicLong tokenRequests = new AtomicLong();
+    final AtomicLong userInfoRequests = new AtomicLong();
+    final AtomicLong jwksRequests = new AtomicLong();
+
+    private record Grant(int user, String clientId, String nonce) {
+    }
+
+    MockOAuth2Server(int distinctUsers) throws IOException, JOSEException {
+        this.distinctUsers = distinctUsers;
+        this.signingKey = new RSAKeyGenerator(2048).keyID("mock-key").generate();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+        this.executor = Executors.newFixedThreadPool(64);
+        server.setExecutor(executor);
+        server.createContext("/authorize", this::authorize);
+        server.createContext("/token", this::token);
+        server.createContext("/userinfo", this::userInfo);
+        server.createContext("/jwks", this::jwks);
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private void authorize(HttpExchange exchange) throws IOException {
+        authorizeRequests.incrementAndGet();
+        Map<String, String> params = parseForm(exchange.getRequestURI().getRawQuery());
+        int user = (int) (nextUser.getAndIncrement() % distinctUsers);
+        String code = UUID.randomUUID().toString();
+        grantsByCode.put(code, new Grant(user, params.get("client_id"), params.get("nonce")));
+
+        String location = params.get("redirect_uri")
+                + "?code=" + code
+                + "&state=" + URLEncoder.encode(params.get("state"), StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private void token(HttpExchange exchange) throws IOException {
+        tokenRequests.incrementAndGet();
+        Map<String, String> params = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        Grant grant = grantsByCode.remove(params.get("code"));
+        if (grant == null) {
+            send(exchange, 400, "{\"error\":\"invalid_grant\"}");
+            return;
+        }
+        String accessToken = UUID.randomUUID().toString();
+        usersByAccessToken.put(accessToken, grant.user());
+
+        StringBuilder body = new StringBuilder()
+                .append("{\"access_token\":\"").append(accessToken).append('"')
+                .append(",\"token_type\":\"Bearer\",\"expires_in\":3600");
+        if (grant.nonce() != null) {
+            body.append(",\"scope\":\"openid profile email\"")
+                    .append(",\"id_token\":\"").append(idToken(grant)).append('"');
+        }
+        body.append('}');
+        send(exchange, 200, body.toString());
+    }
+
+    private void userInfo(HttpExchange exchange) throws IOException {
+        userInfoRequests.incrementAndGet();
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        Integer user = authorization != null ? usersByAccessToken.get(authorization.substring("Bearer ".length())) : null;
+        if (user == null) {
+            send(exchange, 401, "{\"error\":\"invalid_token\"}");
+            return;
+        }
+        send(exchange, 200, "{\"id\":" + user
+                + ",\"sub\":\"" + user + '"'
+                + ",\"login\":\"loaduser" + user + '"'
+                + ",\"email\":\"" + email(user) + '"'
+                + ",\"name\":\"Load User " + user + '"'
+                + ",\"avatar_url\":\"https://example.com/avatar/" + user + '"'
+                + ",\"picture\":\"https://example.com/avatar/" + user + "\"}");
+    }
+
+    private void jwks(HttpExchange exchange) throws IOException {
+        jwksRequests.incrementAndGet();
+        send(exchange, 200, new JWKSet(signingKey.toPublicJWK()).toString());
+    }
+
+    private String idToken(Grant grant) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(baseUrl())
+                .subject(String.valueOf(grant.user()))
+                .audience(grant.clientId())
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(300)))
+                .claim("nonce", grant.nonce())
+                .claim("email", email(grant.user()))
+                .claim("name", "Load User " + grant.user())
+                .claim("picture", "https://example.com/avatar/" + grant.user())
+                .build();
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+            jwt.sign(new RSASSASigner(signingKey));
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String email(int user) {
+        return "loaduser" + user + "@example.com";
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseForm(String raw) {
+        Map<String, String> params = new HashMap<>();
+        if (raw == null || raw.isEmpty()) {
+            return params;
+        }
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
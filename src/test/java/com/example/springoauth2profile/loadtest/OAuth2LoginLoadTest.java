@@ -0,0 +1,278 @@
+package com.example.springoauth2profile.loadtest;
+
+import com.example.springoauth2profile.SpringOauth2ProfileApplication;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives concurrent full oauth2Login flows, then GET and POST /profile, against the real
+ * SecurityConfig with MockOAuth2Server standing in for GitHub (user-info) and Google (OIDC).
+ * Runs offline. Excluded from the default build; run with:
+ *
+ *   ./mvnw test -Pload-test -Dloadtest.users=5000 -Dloadtest.concurrency=200
+ */
+@Tag("load")
+@SpringBootTest(classes = SpringOauth2ProfileApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "logging.level.root=WARN",
+                "logging.level.org.springframework.security=WARN",
+                "logging.level.com.example.springoauth2profile=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                "server.tomcat.threads.max=400",
+                "app.internal.client-secret={noop}test-secret"
+        })
+class OAuth2LoginLoadTest {
+
+    private static final int USERS = Integer.getInteger("loadtest.users", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 200);
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+
+    private static MockOAuth2Server mockServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @BeforeAll
+    static void startMockServer() throws Exception {
+        mockServer = new MockOAuth2Server(USERS);
+        mockServer.start();
+    }
+
+    @AfterAll
+    static void stopMockServer() {
+        mockServer.stop();
+    }
+
+    @DynamicPropertySource
+    static void mockProviders(DynamicPropertyRegistry registry) {
+        // Plain OAuth2 with a user-info call (GitHub-style)
+        registry.add("spring.security.oauth2.client.registration.mock.client-id", () -> "mock-client");
+        registry.add("spring.security.oauth2.client.registration.mock.client-secret", () -> "mock-secret");
+        registry.add("spring.security.oauth2.client.registration.mock.authorization-grant-type", () -> "authorization_code");
+        registry.add("spring.security.oauth2.client.registration.mock.redirect-uri", () -> "{baseUrl}/login/oauth2/code/{registrationId}");
+        registry.add("spring.security.oauth2.client.registration.mock.scope", () -> "read:user");
+        registry.add("spring.security.oauth2.client.provider.mock.authorization-uri", () -> mockServer.baseUrl() + "/authorize");
+        registry.add("spring.security.oauth2.client.provider.mock.token-uri", () -> mockServer.baseUrl() + "/token");
+        registry.add("spring.security.oauth2.client.provider.mock.user-info-uri", () -> mockServer.baseUrl() + "/userinfo");
+        registry.add("spring.security.oauth2.client.provider.mock.user-name-attribute", () -> "id");
+        registry.add("app.oauth2.providers.mock.user-id-attribute", () -> "id");
+        registry.add("app.oauth2.providers.mock.avatar-attribute", () -> "avatar_url");
+        registry.add("app.oauth2.providers.mock.principal-name-attribute", () -> "login");
+
+        // OIDC with an ID token verified against the JWKS endpoint (Google-style)
+        registry.add("spring.security.oauth2.client.registration.mock-oidc.client-id", () -> "mock-oidc-client");
+        registry.add("spring.security.oauth2.client.registration.mock-oidc.client-secret", () -> "mock-secret");
+        registry.add("spring.security.oauth2.client.registration.mock-oidc.authorization-grant-type", () -> "authorization_code");
+        registry.add("spring.security.oauth2.client.registration.mock-oidc.redirect-uri", () -> "{baseUrl}/login/oauth2/code/{registrationId}");
+        registry.add("spring.security.oauth2.client.registration.mock-oidc.scope", () -> "openid,profile,email");
+        registry.add("spring.security.oauth2.client.provider.mock-oidc.authorization-uri", () -> mockServer.baseUrl() + "/authorize");
+        registry.add("spring.security.oauth2.client.provider.mock-oidc.token-uri", () -> mockServer.baseUrl() + "/token");
+        registry.add("spring.security.oauth2.client.provider.mock-oidc.user-info-uri", () -> mockServer.baseUrl() + "/userinfo");
+        registry.add("spring.security.oauth2.client.provider.mock-oidc.jwk-set-uri", () -> mockServer.baseUrl() + "/jwks");
+        registry.add("spring.security.oauth2.client.provider.mock-oidc.user-name-attribute", () -> "sub");
+        registry.add("app.oauth2.providers.mock-oidc.user-id-attribute", () -> "sub");
+    }
+
+    @Test
+    void oauth2LoginUnderLoad() throws Exception {
+        runScenario("mock");
+    }
+
+    @Test
+    void oidcLoginUnderLoad() throws Exception {
+        runScenario("mock-oidc");
+    }
+
+    private void runScenario(String registrationId) throws Exception {
+        List<VirtualUser> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(new VirtualUser());
+        }
+        long userInfoBefore = mockServer.userInfoRequests.get();
+
+        System.out.println("=== Load test: " + registrationId + ", " + USERS + " users, concurrency " + CONCURRENCY + " ===");
+        runPhase("login", users, user -> user.login(registrationId));
+        long userInfoCalls = mockServer.userInfoRequests.get() - userInfoBefore;
+        runPhase("GET /profile", users, VirtualUser::viewProfile);
+        runPhase("POST /profile", users, VirtualUser::updateProfile);
+        System.out.println(String.format("user-info calls per login: %.2f, JWKS fetches total: %d",
+                (double) userInfoCalls / USERS, mockServer.jwksRequests.get()));
+    }
+
+    private void runPhase(String name, List<VirtualUser> users, Step step) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(users.size()));
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (VirtualUser user : users) {
+                futures.add(executor.submit(() -> {
+                    long t0 = System.nanoTime();
+                    try {
+                        step.run(user);
+                        latencies.add(System.nanoTime() - t0);
+                    } catch (Exception e) {
+                        if (failures.incrementAndGet() <= 5) {
+                            e.printStackTrace();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.println(String.format(
+                "%-14s flows=%d failures=%d throughput=%.1f/s p50=%.1fms p99=%.1fms queries/flow=%.2f",
+                name, sorted.size(), failures.get(),
+                sorted.size() / (elapsed / 1e9),
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6,
+                (double) statistics.getPrepareStatementCount() / Math.max(1, sorted.size())));
+
+        assertThat(failures.get()).as(name + " failures").isZero();
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        return sorted.get(Math.min(sorted.size() - 1, (int) Math.ceil(p * sorted.size()) - 1));
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run(VirtualUser user) throws Exception;
+    }
+
+    /**
+     * One browser: its own cookie jar, redirects followed by hand so every hop shares the session.
+     */
+    private class VirtualUser {
+
+        private final Map<String, String> cookies = new HashMap<>();
+        private String csrfToken;
+
+        void login(String registrationId) throws Exception {
+            HttpResponse<String> response = get(app("/oauth2/authorization/" + registrationId));
+            assertThat(response.uri().getPath()).isEqualTo("/profile");
+            expectOk(response);
+        }
+
+        void viewProfile() throws Exception {
+            HttpResponse<String> response = get(app("/profile"));
+            expectOk(response);
+            Matcher matcher = CSRF_TOKEN.matcher(response.body());
+            assertThat(matcher.find()).as("CSRF token on /profile").isTrue();
+            csrfToken = matcher.group(1);
+        }
+
+        void updateProfile() throws Exception {
+            String form = "displayName=" + URLEncoder.encode("Load Tester", StandardCharsets.UTF_8)
+                    + "&bio=" + URLEncoder.encode("Updated under load", StandardCharsets.UTF_8)
+                    + "&_csrf=" + URLEncoder.encode(csrfToken, StandardCharsets.UTF_8);
+            HttpRequest request = withCookies(HttpRequest.newBuilder(app("/profile")))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build();
+            HttpResponse<String> response = follow(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+            expectOk(response);
+        }
+
+        private HttpResponse<String> get(URI uri) throws Exception {
+            HttpRequest request = withCookies(HttpRequest.newBuilder(uri)).GET().build();
+            return follow(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        private HttpResponse<String> follow(HttpResponse<String> response) throws Exception {
+            storeCookies(response);
+            int hops = 0;
+            while (response.statusCode() / 100 == 3 && hops++ < 10) {
+                URI location = response.uri().resolve(response.headers().firstValue("Location").orElseThrow());
+                HttpRequest request = withCookies(HttpRequest.newBuilder(location)).GET().build();
+                response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                storeCookies(response);
+            }
+            return response;
+        }
+
+        private HttpRequest.Builder withCookies(HttpRequest.Builder builder) {
+            if (!cookies.isEmpty()) {
+                StringBuilder header = new StringBuilder();
+                cookies.forEach((name, value) -> header.append(header.isEmpty() ? "" : "; ").append(name).append('=').append(value));
+                builder.header("Cookie", header.toString());
+            }
+            return builder.timeout(Duration.ofSeconds(30));
+        }
+
+        private void storeCookies(HttpResponse<?> response) {
+            for (String setCookie : response.headers().allValues("Set-Cookie")) {
+                String pair = setCookie.split(";", 2)[0];
+                int eq = pair.indexOf('=');
+                if (eq > 0) {
+                    cookies.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+                }
+            }
+        }
+
+        private void expectOk(HttpResponse<String> response) {
+            assertThat(response.statusCode()).as("%s %s", response.request().method(), response.uri()).isEqualTo(200);
+        }
+
+        private URI app(String path) {
+            return URI.create("http://localhost:" + port + path);
+        }
+    }
+}
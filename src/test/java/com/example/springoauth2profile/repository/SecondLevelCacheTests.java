@@ -0,0 +1,120 @@
+package com.example.springoauth2profile.repository;
+
+import com.example.springoauth2profile.SpringOauth2ProfileApplication;
+import com.example.springoauth2profile.config.CacheInvalidationEvent;
+import com.example.springoauth2profile.config.SecondLevelCacheInvalidator;
+import com.example.springoauth2profile.model.AuthProvider;
+import com.example.springoauth2profile.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(classes = SpringOauth2ProfileApplication.class, properties = "app.internal.client-secret={noop}test-secret")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AuthProviderRepository authProviderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private SecondLevelCacheInvalidator cacheInvalidator;
+
+    private Statistics statistics;
+    private String email;
+    private String providerUserId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        email = UUID.randomUUID() + "@example.com";
+        providerUserId = UUID.randomUUID().toString();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = new User();
+            user.setEmail(email);
+            user.setDisplayName("Cached User");
+            userRepository.save(user);
+
+            AuthProvider authProvider = new AuthProvider();
+            authProvider.setProvider("GITHUB");
+            authProvider.setProviderUserId(providerUserId);
+            authProvider.setUser(user);
+            authProviderRepository.save(authProvider);
+        });
+        statistics.clear();
+    }
+
+    @Test
+    void repeatFindByEmailIsServedFromCache() {
+        assertThat(userRepository.findByEmail(email)).isPresent();
+        statistics.clear();
+
+        assertThat(userRepository.findByEmail(email)).isPresent();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void repeatProviderLookupAndUserAreServedFromCache() {
+        for (int i = 0; i < 2; i++) {
+            // First pass warms the caches
+            statistics.clear();
+            String found = transactionTemplate.execute(status -> authProviderRepository
+                    .findByProviderAndProviderUserId("GITHUB", providerUserId)
+                    .map(authProvider -> authProvider.getUser().getEmail())
+                    .orElse(null));
+            assertThat(found).isEqualTo(email);
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictedUserIsReloadedFromDatabase() {
+        Long id = userRepository.findByEmail(email).orElseThrow().getId();
+
+        cacheInvalidator.evict(new CacheInvalidationEvent(User.class.getName(), id,
+                CacheInvalidationEvent.Type.UPDATE, null));
+        statistics.clear();
+
+        assertThat(userRepository.findByEmail(email)).isPresent();
+
+        // The natural id still resolves from cache; only the entity row is fetched again
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void evictedDeleteAlsoDropsNaturalIdMapping() {
+        Long id = userRepository.findByEmail(email).orElseThrow().getId();
+
+        cacheInvalidator.evict(new CacheInvalidationEvent(User.class.getName(), id,
+                CacheInvalidationEvent.Type.DELETE, null));
+        statistics.clear();
+
+        assertThat(userRepository.findByEmail(email)).isPresent();
+
+        assertThat(statistics.getNaturalIdCacheHitCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isPositive();
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.springoauth2profile.service;
+
+import com.example.springoauth2profile.config.ProviderProperties;
+import com.example.springoauth2profile.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserRequest;
+import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomOidcUserServiceTests {
+
+    private static final ClientRegistration GOOGLE = ClientRegistration.withRegistrationId("google")
+            .clientId("client")
+            .clientSecret("secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+            .scope("openid", "email", "profile")
+            .authorizationUri("https://idp.example.com/authorize")
+            .tokenUri("https://idp.example.com/token")
+            .jwkSetUri("https://idp.example.com/jwks")
+            .userInfoUri("https://idp.example.com/userinfo")
+            .userNameAttributeName("sub")
+            .build();
+
+    private final CustomOAuth2UserService customOAuth2UserService = mock(CustomOAuth2UserService.class);
+    private final ProviderRegistry providerRegistry = mock(ProviderRegistry.class);
+    @SuppressWarnings("unchecked")
+    private final OAuth2UserService<OAuth2UserRequest, OAuth2User> userInfoService = mock(OAuth2UserService.class);
+    private final ProviderDefinition google = googleDefinition();
+
+    @Test
+    void completeIdTokenSkipsUserInfo() {
+        CustomOidcUserService service = service(true);
+
+        OidcUser user = service.loadUser(request(idToken(true)));
+
+        assertThat(user.getEmail()).isEqualTo("a@example.com");
+        verify(userInfoService, never()).loadUser(any());
+        verify(customOAuth2UserService).provisionUser(eq(google), anyMap());
+    }
+
+    @Test
+    void missingPictureClaimFetchesUserInfo() {
+        when(userInfoService.loadUser(any())).thenReturn(userInfo());
+        CustomOidcUserService service = service(true);
+
+        OidcUser user = service.loadUser(request(idToken(false)));
+
+        assertThat(user.getPicture()).isEqualTo("https://example.com/a.png");
+        verify(userInfoService).loadUser(any());
+    }
+
+    @Test
+    void untrustedIdTokenAlwaysFetchesUserInfo() {
+        when(userInfoService.loadUser(any())).thenReturn(userInfo());
+        CustomOidcUserService service = service(false);
+
+        service.loadUser(request(idToken(true)));
+
+        verify(userInfoService).loadUser(any());
+    }
+
+    @Test
+    void provisioningFailureFailsLogin() {
+        CustomOidcUserService service = service(true);
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+        when(customOAuth2UserService.provisionUser(eq(google), anyMap())).thenThrow(failure);
+
+        assertThatThrownBy(() -> service.loadUser(request(idToken(true)))).isSameAs(failure);
+    }
+
+    private CustomOidcUserService service(boolean trustIdTokenClaims) {
+        when(providerRegistry.get("google")).thenReturn(google);
+        when(customOAuth2UserService.provisionUser(eq(google), anyMap())).thenReturn(new User());
+        CustomOidcUserService service = new CustomOidcUserService(customOAuth2UserService, providerRegistry,
+                trustIdTokenClaims);
+        service.setOauth2UserService(userInfoService);
+        return service;
+    }
+
+    private static OidcUserRequest request(OidcIdToken idToken) {
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access-token",
+                Instant.now(), Instant.now().plusSeconds(60), Set.of("openid", "email", "profile"));
+        return new OidcUserRequest(GOOGLE, accessToken, idToken);
+    }
+
+    private static OidcIdToken idToken(boolean withPicture) {
+        OidcIdToken.Builder builder = OidcIdToken.withTokenValue("id-token")
+                .subject("123")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .claim("email", "a@example.com")
+                .claim("name", "Alice");
+        if (withPicture) {
+            builder.claim("picture", "https://example.com/a.png");
+        }
+        return builder.build();
+    }
+
+    private static OAuth2User userInfo() {
+        return new DefaultOAuth2User(AuthorityUtils.createAuthorityList("OAUTH2_USER"),
+                Map.of("sub", "123", "email", "a@example.com", "picture", "https://example.com/a.png"), "sub");
+    }
+
+    private static ProviderDefinition googleDefinition() {
+        ProviderProperties.Mapping mapping = new ProviderProperties.Mapping();
+        mapping.setUserIdAttribute("sub");
+        return new ProviderDefinition("google", mapping);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.springoauth2profile.service;
+
+import com.example.springoauth2profile.dto.ProfileSummary;
+import com.example.springoauth2profile.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProfileLookupServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final List<List<Long>> idQueries = new ArrayList<>();
+
+    @Test
+    void queriesOncePerChunkAndDeduplicates() {
+        when(userRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            idQueries.add(List.copyOf(ids));
+            return ids.stream().filter(id -> id != 99L).map(ProfileLookupServiceTests::summary).toList();
+        });
+        ProfileLookupService service = new ProfileLookupService(userRepository, 2);
+
+        List<ProfileSummary> result = service.findSummaries(List.of(1L, 2L, 2L, 3L, 99L, 4L), List.of());
+
+        assertThat(result).extracting(ProfileSummary::getId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(idQueries).containsExactly(List.of(1L, 2L), List.of(3L, 99L), List.of(4L));
+    }
+
+    @Test
+    void concurrentRequestsShareInFlightKeys() throws Exception {
+        CountDownLatch firstQueryStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstQuery = new CountDownLatch(1);
+        when(userRepository.findSummariesByIdIn(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            synchronized (idQueries) {
+                idQueries.add(List.copyOf(ids));
+            }
+            if (ids.contains(1L)) {
+                firstQueryStarted.countDown();
+                assertThat(releaseFirstQuery.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            return ids.stream().map(ProfileLookupServiceTests::summary).toList();
+        });
+        ProfileLookupService service = new ProfileLookupService(userRepository, 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<ProfileSummary>> first = executor.submit(() -> service.findSummaries(List.of(1L, 2L), List.of()));
+            assertThat(firstQueryStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // 1 and 2 are in flight; only 3 should be queried by the second request
+            Future<List<ProfileSummary>> second = executor.submit(() -> service.findSummaries(List.of(2L, 3L), List.of()));
+            Thread.sleep(100);
+            releaseFirstQuery.countDown();
+
+            assertThat(first.get(5, TimeUnit.SECONDS)).extracting(ProfileSummary::getId).containsExactly(1L, 2L);
+            assertThat(second.get(5, TimeUnit.SECONDS)).extracting(ProfileSummary::getId).containsExactly(2L, 3L);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(idQueries).containsExactlyInAnyOrder(List.of(1L, 2L), List.of(3L));
+    }
+
+    @Test
+    void emailLookupsCarryEmail() {
+        when(userRepository.findSummariesByEmailIn(anyCollection()))
+                .thenReturn(List.of(new ProfileSummary(7L, "a@example.com", "A", null)));
+        ProfileLookupService service = new ProfileLookupService(userRepository, 10);
+
+        List<ProfileSummary> result = service.findSummaries(List.of(), List.of("a@example.com", "missing@example.com"));
+
+        assertThat(result).extracting(ProfileSummary::getEmail).containsExactly("a@example.com");
+        verify(userRepository).findSummariesByEmailIn(List.of("a@example.com", "missing@example.com"));
+    }
+
+    private static ProfileSummary summary(Long id) {
+        return new ProfileSummary(id, "User " + id, null);
+    }
+}
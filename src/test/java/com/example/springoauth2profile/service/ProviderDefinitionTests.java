@@ -0,0 +1,71 @@
+package com.example.springoauth2profile.service;
+
+import com.example.springoauth2profile.config.ProviderProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderDefinitionTests {
+
+    @Test
+    void mapsFlatAttributesAndDefaultsKeyToUpperCaseRegistrationId() {
+        ProviderProperties.Mapping mapping = new ProviderProperties.Mapping();
+        mapping.setUserIdAttribute("id");
+        mapping.setAvatarAttribute("avatar_url");
+        ProviderDefinition github = new ProviderDefinition("github", mapping);
+
+        Map<String, Object> attributes = Map.of("id", 42, "email", "a@example.com",
+                "name", "Alice", "avatar_url", "https://example.com/a.png");
+
+        assertThat(github.getKey()).isEqualTo("GITHUB");
+        assertThat(github.userId(attributes)).isEqualTo("42");
+        assertThat(github.email(attributes)).isEqualTo("a@example.com");
+        assertThat(github.displayName(attributes)).isEqualTo("Alice");
+        assertThat(github.avatarUrl(attributes)).isEqualTo("https://example.com/a.png");
+    }
+
+    @Test
+    void resolvesDottedPathsIntoNestedMaps() {
+        ProviderProperties.Mapping mapping = new ProviderProperties.Mapping();
+        mapping.setKey("CORP");
+        mapping.setUserIdAttribute("profile.oid");
+        mapping.setEmailAttribute("profile.mail");
+        ProviderDefinition corp = new ProviderDefinition("corp-oidc", mapping);
+
+        Map<String, Object> attributes = Map.of("profile", Map.of("oid", "abc", "mail", "b@corp.example"));
+
+        assertThat(corp.getKey()).isEqualTo("CORP");
+        assertThat(corp.userId(attributes)).isEqualTo("abc");
+        assertThat(corp.email(attributes)).isEqualTo("b@corp.example");
+        assertThat(corp.userId(Map.of("profile", "not-a-map"))).isNull();
+    }
+
+    @Test
+    void fallsBackToEmailTemplateWhenEmailMissing() {
+        ProviderProperties.Mapping mapping = new ProviderProperties.Mapping();
+        mapping.setUserIdAttribute("id");
+        mapping.setEmailFallback("{login}@users.noreply.github.com");
+        ProviderDefinition github = new ProviderDefinition("github", mapping);
+
+        assertThat(github.email(Map.of("login", "octocat"))).isEqualTo("octocat@users.noreply.github.com");
+        assertThat(github.email(Map.of("email", "", "login", "octocat"))).isEqualTo("octocat@users.noreply.github.com");
+        assertThat(github.email(Map.of("id", 1))).isNull();
+    }
+
+    @Test
+    void rejectsInvalidMappings() {
+        ProviderProperties.Mapping missingUserId = new ProviderProperties.Mapping();
+        assertThatThrownBy(() -> new ProviderDefinition("gitlab", missingUserId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("user-id-attribute");
+
+        ProviderProperties.Mapping unclosedTemplate = new ProviderProperties.Mapping();
+        unclosedTemplate.setUserIdAttribute("id");
+        unclosedTemplate.setEmailFallback("{login@example.com");
+        assertThatThrownBy(() -> new ProviderDefinition("gitlab", unclosedTemplate))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}